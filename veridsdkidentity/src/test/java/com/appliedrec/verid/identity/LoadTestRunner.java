@@ -0,0 +1,151 @@
+package com.appliedrec.verid.identity;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a workload concurrently and measures its throughput and latency
+ */
+final class LoadTestRunner {
+
+    /**
+     * Operation measured by the runner
+     */
+    interface Workload {
+        /**
+         * @param thread Index of the calling thread
+         * @param iteration Index of the operation on the calling thread
+         */
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    private final int warmupOperations;
+    private final int operationsPerThread;
+
+    /**
+     * Constructor
+     * @param warmupOperations Operations each thread runs before measuring starts
+     * @param operationsPerThread Measured operations per thread
+     */
+    LoadTestRunner(int warmupOperations, int operationsPerThread) {
+        this.warmupOperations = warmupOperations;
+        this.operationsPerThread = operationsPerThread;
+    }
+
+    /**
+     * Run a workload on a number of threads
+     * <p>
+     * Threads are released together once all of them have finished warming up.
+     * @param name Name of the workload shown in the result
+     * @param threadCount Number of concurrent threads
+     * @param workload Workload to run
+     * @return Result
+     * @throws Exception Exception thrown by the workload on the lowest-indexed thread that failed
+     */
+    @NonNull
+    Result run(@NonNull String name, int threadCount, @NonNull Workload workload) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        // The barrier action runs before any thread is released so fast workloads can't finish before the clock starts
+        AtomicLong startTime = new AtomicLong();
+        CyclicBarrier barrier = new CyclicBarrier(threadCount + 1, () -> startTime.set(System.nanoTime()));
+        try {
+            ArrayList<Future<long[]>> futures = new ArrayList<>();
+            for (int t=0; t<threadCount; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    try {
+                        for (int i=0; i<warmupOperations; i++) {
+                            workload.run(thread, i);
+                        }
+                    } finally {
+                        barrier.await();
+                    }
+                    long[] latencies = new long[operationsPerThread];
+                    for (int i=0; i<operationsPerThread; i++) {
+                        long start = System.nanoTime();
+                        workload.run(thread, warmupOperations + i);
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            barrier.await();
+            long[] latencies = new long[threadCount * operationsPerThread];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] threadLatencies;
+                try {
+                    threadLatencies = future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw e;
+                }
+                System.arraycopy(threadLatencies, 0, latencies, offset, threadLatencies.length);
+                offset += threadLatencies.length;
+            }
+            long elapsed = System.nanoTime() - startTime.get();
+            return new Result(name, threadCount, latencies, elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Measurements collected by {@link LoadTestRunner}
+     */
+    static final class Result {
+
+        final String name;
+        final int threadCount;
+        final long[] latencies;
+        final long elapsedNanos;
+
+        Result(String name, int threadCount, long[] latencies, long elapsedNanos) {
+            this.name = name;
+            this.threadCount = threadCount;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return Operations per second across all threads
+         */
+        double getThroughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Get latency percentile using the nearest-rank method
+         * @param percentile Percentile between 0 and 100
+         * @return Latency in milliseconds
+         */
+        double getLatencyPercentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))] / 1e6;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-24s threads=%-3d ops=%-6d throughput=%10.1f ops/s  p50=%8.3f ms  p90=%8.3f ms  p99=%8.3f ms  max=%8.3f ms",
+                    name, threadCount, latencies.length, getThroughput(),
+                    getLatencyPercentile(50), getLatencyPercentile(90), getLatencyPercentile(99), getLatencyPercentile(100));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.appliedrec.verid.identity;
+
+import androidx.annotation.NonNull;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server that stands in for the remote host of P12 files
+ * <p>
+ * Binds to the loopback interface on an ephemeral port. Paths that weren't registered using
+ * {@link #serve(String, byte[])} respond with status 404.
+ */
+final class LocalP12Server implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY the separate header and body writes stall on Nagle's algorithm and delayed ACKs,
+        // adding ~40 ms to every request. The JDK reads the property only once, when the first HttpServer in the
+        // JVM is created, so this has no effect if another server was created before this class was loaded.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param threadCount Number of threads handling requests
+     */
+    LocalP12Server(int threadCount) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                byte[] body = resources.get(exchange.getRequestURI().getRawPath());
+                if (body == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/x-pkcs12");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        executor = Executors.newFixedThreadPool(threadCount);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Serve content at a path
+     * @param path Path starting with a slash
+     * @param content Response body
+     * @return URL of the content
+     */
+    @NonNull
+    URL serve(@NonNull String path, @NonNull byte[] content) throws IOException {
+        resources.put(path, content);
+        return url(path);
+    }
+
+    /**
+     * @param path Path starting with a slash
+     * @return URL of the path on this server
+     */
+    @NonNull
+    URL url(@NonNull String path) throws IOException {
+        InetSocketAddress address = server.getAddress();
+        return new URL("http", address.getHostString(), address.getPort(), path);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
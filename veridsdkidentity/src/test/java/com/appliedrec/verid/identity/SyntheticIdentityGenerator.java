@@ -0,0 +1,151 @@
+package com.appliedrec.verid.identity;
+
+import androidx.annotation.NonNull;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Generates certificate authority hierarchies and P12 identities for tests
+ * <p>
+ * Key pairs and certificate signatures are derived from the seed. Serial numbers are assigned
+ * sequentially by each generator and validity dates are fixed, so the same configuration always
+ * produces the same certificates.
+ */
+final class SyntheticIdentityGenerator {
+
+    /**
+     * Key algorithm of the generated identities
+     */
+    enum KeyType {
+        RSA("RSA", "SHA256withRSA"),
+        EC("EC", "SHA256withECDSA");
+
+        final String keyAlgorithm;
+        final String signatureAlgorithm;
+
+        KeyType(String keyAlgorithm, String signatureAlgorithm) {
+            this.keyAlgorithm = keyAlgorithm;
+            this.signatureAlgorithm = signatureAlgorithm;
+        }
+    }
+
+    private static final Date NOT_BEFORE = new Date(1577836800000L); // 2020-01-01
+    private static final Date NOT_AFTER = new Date(2524608000000L); // 2050-01-01
+
+    private final KeyType keyType;
+    private final int keySize;
+    private final SecureRandom random;
+    private long nextSerialNumber = 1;
+
+    /**
+     * Constructor
+     * @param keyType Key algorithm used for every certificate in the hierarchy
+     * @param keySize Key size in bits (e.g. 2048 for RSA, 256 for EC)
+     * @param seed Seed from which the key material is derived
+     */
+    SyntheticIdentityGenerator(@NonNull KeyType keyType, int keySize, long seed) throws Exception {
+        this.keyType = keyType;
+        this.keySize = keySize;
+        this.random = SecureRandom.getInstance("SHA1PRNG");
+        this.random.setSeed(seed);
+    }
+
+    KeyType getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * Generate an identity issued by a root certificate authority through a number of intermediate authorities
+     * @param commonName Common name of the identity's certificate
+     * @param intermediateCount Number of intermediate certificate authorities between the root and the identity
+     * @param password Password used to protect the P12 content
+     * @return Identity
+     */
+    @NonNull
+    synchronized SyntheticIdentity generate(@NonNull String commonName, int intermediateCount, @NonNull String password) throws Exception {
+        ArrayList<X509Certificate> chain = new ArrayList<>();
+        KeyPair issuerKeyPair = generateKeyPair();
+        X500Name issuerName = new X500Name("CN=Synthetic Root CA,O=Applied Recognition");
+        X509Certificate issuerCertificate = createCertificate(issuerName, issuerKeyPair, issuerName, issuerKeyPair, true);
+        chain.add(issuerCertificate);
+        for (int i=0; i<intermediateCount; i++) {
+            KeyPair keyPair = generateKeyPair();
+            X500Name name = new X500Name("CN=Synthetic Intermediate CA " + (i + 1) + ",O=Applied Recognition");
+            issuerCertificate = createCertificate(name, keyPair, issuerName, issuerKeyPair, true);
+            chain.add(issuerCertificate);
+            issuerKeyPair = keyPair;
+            issuerName = name;
+        }
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate certificate = createCertificate(new X500Name("CN=" + commonName), keyPair, issuerName, issuerKeyPair, false);
+        chain.add(certificate);
+        Collections.reverse(chain);
+        X509Certificate[] chainArray = new X509Certificate[chain.size()];
+        chain.toArray(chainArray);
+
+        KeyStore keyStore = KeyStore.getInstance("pkcs12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(commonName, keyPair.getPrivate(), password.toCharArray(), chainArray);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        keyStore.store(outputStream, password.toCharArray());
+        return new SyntheticIdentity(outputStream.toByteArray(), password, chainArray, keyType.signatureAlgorithm);
+    }
+
+    private KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(keyType.keyAlgorithm);
+        keyPairGenerator.initialize(keySize, random);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private X509Certificate createCertificate(X500Name subject, KeyPair subjectKeyPair, X500Name issuer, KeyPair issuerKeyPair, boolean isCertificateAuthority) throws Exception {
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer, BigInteger.valueOf(nextSerialNumber++), NOT_BEFORE, NOT_AFTER, subject, subjectKeyPair.getPublic());
+        builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(isCertificateAuthority));
+        int keyUsage = isCertificateAuthority ? KeyUsage.keyCertSign | KeyUsage.cRLSign : KeyUsage.digitalSignature;
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(keyUsage));
+        ContentSigner signer = new JcaContentSignerBuilder(keyType.signatureAlgorithm).setSecureRandom(random).build(issuerKeyPair.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+    }
+
+    /**
+     * Identity produced by {@link SyntheticIdentityGenerator}
+     */
+    static final class SyntheticIdentity {
+
+        final byte[] p12;
+        final String password;
+        final X509Certificate[] chain;
+        final String signatureAlgorithm;
+
+        SyntheticIdentity(byte[] p12, String password, X509Certificate[] chain, String signatureAlgorithm) {
+            this.p12 = p12;
+            this.password = password;
+            this.chain = chain;
+            this.signatureAlgorithm = signatureAlgorithm;
+        }
+
+        /**
+         * @return The identity's certificate
+         */
+        X509Certificate getCertificate() {
+            return chain[0];
+        }
+    }
+}
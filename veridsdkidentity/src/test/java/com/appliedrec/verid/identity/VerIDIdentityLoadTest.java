@@ -0,0 +1,221 @@
+package com.appliedrec.verid.identity;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Load tests running on the JVM against synthetic identities served from a local HTTP server
+ * <p>
+ * The load tests are skipped unless {@code verid.loadtest.enabled} is {@code true}; the correctness
+ * tests always run. Configured using system properties, which Gradle forwards to the tests, e.g.
+ * {@code ./gradlew :veridsdkidentity:testDebugUnitTest -Dverid.loadtest.enabled=true -Dverid.loadtest.threads=1,8,32 -Dverid.loadtest.keyType=EC}
+ * <ul>
+ *     <li>{@code verid.loadtest.enabled} - run the load tests (default false)</li>
+ *     <li>{@code verid.loadtest.threads} - comma-separated thread counts (default 1,4)</li>
+ *     <li>{@code verid.loadtest.operations} - measured operations per thread (default 20)</li>
+ *     <li>{@code verid.loadtest.warmup} - warm-up operations per thread (default 5)</li>
+ *     <li>{@code verid.loadtest.keyType} - RSA or EC (default RSA)</li>
+ *     <li>{@code verid.loadtest.keySize} - key size in bits (default 2048 for RSA, 256 for EC)</li>
+ *     <li>{@code verid.loadtest.intermediates} - intermediate certificate authorities (default 2)</li>
+ *     <li>{@code verid.loadtest.messageSize} - size of signed messages in bytes (default 1024)</li>
+ *     <li>{@code verid.loadtest.seed} - seed for key material and messages (default 1)</li>
+ * </ul>
+ */
+public class VerIDIdentityLoadTest {
+
+    private static final String password = "dummy";
+    private static final String commonName = "verid.client.identity";
+
+    private static int[] threadCounts;
+    private static int messageSize;
+    private static long seed;
+    private static SyntheticIdentityGenerator.SyntheticIdentity syntheticIdentity;
+    private static LocalP12Server server;
+    private static URL identityURL;
+    private static LoadTestRunner runner;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        threadCounts = parseThreadCounts(System.getProperty("verid.loadtest.threads", "1,4"));
+        messageSize = Integer.getInteger("verid.loadtest.messageSize", 1024);
+        seed = Long.getLong("verid.loadtest.seed", 1L);
+        SyntheticIdentityGenerator.KeyType keyType = SyntheticIdentityGenerator.KeyType.valueOf(System.getProperty("verid.loadtest.keyType", "RSA"));
+        int keySize = Integer.getInteger("verid.loadtest.keySize", keyType == SyntheticIdentityGenerator.KeyType.EC ? 256 : 2048);
+        int intermediates = Integer.getInteger("verid.loadtest.intermediates", 2);
+        runner = new LoadTestRunner(Integer.getInteger("verid.loadtest.warmup", 5), Integer.getInteger("verid.loadtest.operations", 20));
+        syntheticIdentity = new SyntheticIdentityGenerator(keyType, keySize, seed).generate(commonName, intermediates, password);
+        int maxThreads = 1;
+        for (int threadCount : threadCounts) {
+            maxThreads = Math.max(maxThreads, threadCount);
+        }
+        server = new LocalP12Server(maxThreads);
+        identityURL = server.serve("/Ver-ID%20identity.p12", syntheticIdentity.p12);
+        System.out.printf("Load test identity: %s %d-bit, chain length %d%n", keyType, keySize, syntheticIdentity.chain.length);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testGenerateIdentity_isDeterministic() throws Exception {
+        SyntheticIdentityGenerator.KeyType keyType = SyntheticIdentityGenerator.KeyType.EC;
+        X509Certificate[] first = new SyntheticIdentityGenerator(keyType, 256, 7).generate(commonName, 1, password).chain;
+        X509Certificate[] second = new SyntheticIdentityGenerator(keyType, 256, 7).generate(commonName, 1, password).chain;
+        assertEquals(first.length, second.length);
+        for (int i=0; i<first.length; i++) {
+            assertArrayEquals(first[i].getEncoded(), second[i].getEncoded());
+        }
+    }
+
+    @Test
+    public void testCreateIdentityFromLocalURL_succeeds() throws Exception {
+        VerIDIdentity identity = new VerIDIdentity(identityURL, password);
+        assertEquals(commonName, identity.getCommonName());
+        assertEquals(syntheticIdentity.getCertificate(), identity.getCertificate());
+    }
+
+    @Test
+    public void testCreateIdentityFromLocalURL_failMissingResource() {
+        try {
+            new VerIDIdentity(server.url("/missing.p12"), password);
+            fail();
+        } catch (Exception ignore) {
+        }
+    }
+
+    @Test
+    public void testCertificateChain_matches() {
+        ArrayList<X509Certificate> chain = new CertificateUtil(syntheticIdentity.getCertificate()).getChain(shuffledChain());
+        assertEquals(syntheticIdentity.chain.length, chain.size());
+        for (int i=0; i<chain.size(); i++) {
+            assertEquals(syntheticIdentity.chain[i], chain.get(i));
+        }
+    }
+
+    @Test
+    public void testConstructFromStream_load() throws Exception {
+        assumeLoadTestsEnabled();
+        for (int threadCount : threadCounts) {
+            report(runner.run("construct (stream)", threadCount, (thread, iteration) ->
+                    new VerIDIdentity(new ByteArrayInputStream(syntheticIdentity.p12), password)));
+        }
+    }
+
+    @Test
+    public void testConstructFromURL_load() throws Exception {
+        assumeLoadTestsEnabled();
+        for (int threadCount : threadCounts) {
+            report(runner.run("construct (local URL)", threadCount, (thread, iteration) ->
+                    new VerIDIdentity(identityURL, password)));
+        }
+    }
+
+    @Test
+    public void testSign_load() throws Exception {
+        assumeLoadTestsEnabled();
+        VerIDIdentity identity = new VerIDIdentity(new ByteArrayInputStream(syntheticIdentity.p12), password);
+        for (int threadCount : threadCounts) {
+            byte[][] messages = createMessages(threadCount);
+            report(runner.run("sign", threadCount, (thread, iteration) ->
+                    identity.sign(messages[thread], syntheticIdentity.signatureAlgorithm)));
+        }
+    }
+
+    @Test
+    public void testVerify_load() throws Exception {
+        assumeLoadTestsEnabled();
+        VerIDIdentity identity = new VerIDIdentity(new ByteArrayInputStream(syntheticIdentity.p12), password);
+        for (int threadCount : threadCounts) {
+            byte[][] messages = createMessages(threadCount);
+            byte[][] signatures = new byte[threadCount][];
+            for (int i=0; i<threadCount; i++) {
+                signatures[i] = identity.sign(messages[i], syntheticIdentity.signatureAlgorithm);
+            }
+            report(runner.run("verify", threadCount, (thread, iteration) -> {
+                Signature signature = Signature.getInstance(syntheticIdentity.signatureAlgorithm);
+                signature.initVerify(identity.getCertificate());
+                signature.update(messages[thread]);
+                if (!signature.verify(signatures[thread])) {
+                    throw new Exception("Failed to verify signature");
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void testChain_load() throws Exception {
+        assumeLoadTestsEnabled();
+        X509Certificate[] pool = shuffledChain();
+        for (int threadCount : threadCounts) {
+            report(runner.run("chain", threadCount, (thread, iteration) -> {
+                ArrayList<X509Certificate> chain = CertificateUtil.getChains(pool)[0];
+                for (int i=0; i<chain.size(); i++) {
+                    X509Certificate issuer = chain.get(Math.min(i + 1, chain.size() - 1));
+                    chain.get(i).verify(issuer.getPublicKey());
+                }
+            }));
+        }
+    }
+
+    private static void assumeLoadTestsEnabled() {
+        Assume.assumeTrue("Load tests are disabled, set verid.loadtest.enabled=true to run them", Boolean.getBoolean("verid.loadtest.enabled"));
+    }
+
+    private static void report(LoadTestRunner.Result result) {
+        System.out.println(result);
+    }
+
+    private static byte[][] createMessages(int count) {
+        Random random = new Random(seed);
+        byte[][] messages = new byte[count][messageSize];
+        for (byte[] message : messages) {
+            random.nextBytes(message);
+        }
+        return messages;
+    }
+
+    private static X509Certificate[] shuffledChain() {
+        X509Certificate[] pool = syntheticIdentity.chain.clone();
+        Random random = new Random(seed);
+        for (int i=pool.length-1; i>0; i--) {
+            int j = random.nextInt(i + 1);
+            X509Certificate certificate = pool[i];
+            pool[i] = pool[j];
+            pool[j] = certificate;
+        }
+        return pool;
+    }
+
+    private static int[] parseThreadCounts(String value) {
+        String[] parts = value.split(",");
+        int[] counts = new int[parts.length];
+        for (int i=0; i<parts.length; i++) {
+            try {
+                counts[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                counts[i] = 0;
+            }
+            if (counts[i] < 1) {
+                throw new IllegalArgumentException("verid.loadtest.threads must be a comma-separated list of thread counts of at least 1, got \"" + value + "\"");
+            }
+        }
+        return counts;
+    }
+}